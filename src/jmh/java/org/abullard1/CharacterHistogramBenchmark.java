@@ -0,0 +1,72 @@
+package org.abullard1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the vector and scalar CharacterHistogram paths, plus the original per-character TreeMap counting.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharacterHistogramBenchmark {
+    @Param({"4096", "1048576", "16777216"})
+    private int length;
+
+    // latin1: skewed ASCII-like text, wide: includes characters above U+00FF
+    @Param({"latin1", "wide"})
+    private String alphabet;
+
+    private char[] chars;
+    private String message;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            // Skewed distribution, so that runs of equal characters are common
+            int rank = (int) Math.abs(random.nextGaussian() * 12);
+            chars[i] = "latin1".equals(alphabet)
+                    ? (char) ('a' + rank % 26)
+                    : (char) (0x3040 + rank % 96);
+        }
+        message = new String(chars);
+    }
+
+    @Benchmark
+    public int[] vectorHistogram() {
+        return CharacterHistogram.count(chars, true);
+    }
+
+    @Benchmark
+    public int[] scalarHistogram() {
+        return CharacterHistogram.count(chars, false);
+    }
+
+    @Benchmark
+    public TreeMap<Character, Integer> treeMapCounting() {
+        TreeMap<Character, Integer> characterCountsTreemap = new TreeMap<>();
+        for (Character character : message.toCharArray()) {
+            characterCountsTreemap.put(character, characterCountsTreemap.getOrDefault(character, 0) + 1);
+        }
+        return characterCountsTreemap;
+    }
+}
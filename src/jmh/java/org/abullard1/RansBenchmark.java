@@ -0,0 +1,69 @@
+package org.abullard1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures RansEncoder/RansDecoder throughput on 16M characters of skewed order-0 text per number of interleaved streams.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RansBenchmark {
+    private static final int LENGTH = 1 << 24;
+
+    @Param({"1", "2", "4", "8"})
+    private int streams;
+
+    private String message;
+    private RansModel model;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        char[] chars = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            chars[i] = (char) ('a' + (int) Math.abs(random.nextGaussian() * 6) % 26);
+        }
+        message = new String(chars);
+
+        TreeMap<Character, BigDecimal> probabilities = new TreeMap<>();
+        for (Map.Entry<Character, Integer> entry : CharacterHistogram.countCharacters(message).entrySet()) {
+            probabilities.put(entry.getKey(), BigDecimal.valueOf(entry.getValue())
+                    .divide(BigDecimal.valueOf(LENGTH), 10, RoundingMode.HALF_UP));
+        }
+        model = RansModel.fromProbabilities(probabilities);
+        encoded = RansEncoder.encodeMessage(message, model, streams);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return RansEncoder.encodeMessage(message, model, streams);
+    }
+
+    @Benchmark
+    public String decode() {
+        return RansDecoder.decodeMessage(encoded, model);
+    }
+}
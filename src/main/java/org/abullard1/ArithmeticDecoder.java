@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 
 /**
  * ArithmeticDecoder class for decoding a message using arithmetic decoding.
@@ -22,18 +23,44 @@ public class ArithmeticDecoder {
                                        TreeMap<Character, BigDecimal> charProbMap,
                                        String stopWord,
                                        int precisionScale) {
+        return decodeMessage(
+                decodingValue,
+                charProbMap,
+                stopWord,
+                precisionScale,
+                Integer.parseInt(ConfigLoader.getProperty("decode.max.iterations"))
+        );
+    }
+
+    /**
+     * Decodes an arithmetic-encoded value into a message, stopping after at most maxLength characters.
+     * Decoding checks the interrupt flag of the current thread and aborts once it is set.
+     *
+     * @param decodingValue  the arithmetic-encoded BigDecimal
+     * @param charProbMap    a TreeMap of characters to their probabilities
+     * @param stopWord       an optional string that ends decoding once encountered
+     * @param precisionScale the integer precision/scale for dividing the decodingValue
+     * @param maxLength      the maximum number of characters to decode
+     * @return               the decoded message as a String
+     * @throws CancellationException if the decoding thread is interrupted
+     */
+    public static String decodeMessage(BigDecimal decodingValue,
+                                       TreeMap<Character, BigDecimal> charProbMap,
+                                       String stopWord,
+                                       int precisionScale,
+                                       int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Maximum decode length must not be negative");
+        }
+
         // 1. Builds intervals from the probability map
         TreeMap<Character, TupleValue> intervals = fillCharacterIntervalsTreemap(charProbMap);
 
-        // 2. Recursively decodes the encoded message until the stopWord is found or maxIterations is reached
-        return decodeArithmeticallyEncodedMessageRecursive(
+        // 2. Decodes the encoded message until the stopWord is found or maxLength is reached
+        return decodeArithmeticallyEncodedMessage(
                 decodingValue,
                 intervals,
-                0,
-                Integer.parseInt(ConfigLoader.getProperty("decode.max.iterations")),
-                new StringBuilder(),
-                BigDecimal.ZERO,
-                BigDecimal.ONE,
+                maxLength,
                 stopWord,
                 precisionScale
         );
@@ -57,77 +84,66 @@ public class ArithmeticDecoder {
     }
 
     /**
-     * Recursively decode, stopping if we hit the stopWord or reach maxIterations.
+     * Decodes character by character (iteratively, so that the length is not limited by the thread's stack size),
+     * stopping if we hit the stopWord or reach maxIterations.
      *
-     * @param decodingValue    current arithmetic-encoded value
+     * @param decodingValue    the arithmetic-encoded value
      * @param intervals        character-to-interval map
-     * @param currentIndex     current character position
      * @param maxIterations    failsafe maximum decode length
-     * @param decodedMessage   building the decoded string
-     * @param lowerBound       current lower bound
-     * @param upperBound       current upper bound
      * @param stopWord         optional string to stop decoding
      * @param precisionScale   the scale for dividing decodingValue
      * @return                 the decoded string
      */
-    private static String decodeArithmeticallyEncodedMessageRecursive(
+    private static String decodeArithmeticallyEncodedMessage(
             BigDecimal decodingValue,
             TreeMap<Character, TupleValue> intervals,
-            int currentIndex,
             int maxIterations,
-            StringBuilder decodedMessage,
-            BigDecimal lowerBound,
-            BigDecimal upperBound,
             String stopWord,
             int precisionScale
     ) {
-        // Base cases for stopping the recursion (maxIterations or stopWord)
-        if (currentIndex == maxIterations) {
-            return decodedMessage.toString();
-        }
-        if (stopWord != null && !stopWord.isEmpty()) {
-            if (decodedMessage.toString().endsWith(stopWord)) {
-                return decodedMessage.toString();
-            }
-        }
+        StringBuilder decodedMessage = new StringBuilder();
+        BigDecimal lowerBound = BigDecimal.ZERO;
+        BigDecimal upperBound = BigDecimal.ONE;
 
-        // 1. Identifies which character interval contains the current decodingValue
-        char currentChar = 0;
-        for(Map.Entry<Character, TupleValue> entry : intervals.entrySet()) {
-            TupleValue tuple = entry.getValue();
-            // Check [tuple.v1, tuple.v2)
-            if (decodingValue.compareTo(tuple.v1) >= 0 && decodingValue.compareTo(tuple.v2) < 0) {
-                currentChar = entry.getKey();
-                decodedMessage.append(currentChar);
-                break;
+        for (int currentIndex = 0; currentIndex < maxIterations; currentIndex++) {
+            // Stops once the decoded message ends with the stopWord
+            if (stopWord != null && !stopWord.isEmpty()) {
+                if (decodedMessage.toString().endsWith(stopWord)) {
+                    break;
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Decoding was interrupted after " + currentIndex + " characters");
             }
-        }
 
-        // 2. Retrieves the interval for the found character
-        TupleValue currentInterval = intervals.get(currentChar);
+            // 1. Identifies which character interval contains the current decodingValue
+            char currentChar = 0;
+            for(Map.Entry<Character, TupleValue> entry : intervals.entrySet()) {
+                TupleValue tuple = entry.getValue();
+                // Check [tuple.v1, tuple.v2)
+                if (decodingValue.compareTo(tuple.v1) >= 0 && decodingValue.compareTo(tuple.v2) < 0) {
+                    currentChar = entry.getKey();
+                    decodedMessage.append(currentChar);
+                    break;
+                }
+            }
 
-        // 3. Calculates new bounds (lower and upper)
-        BigDecimal range = upperBound.subtract(lowerBound);
-        BigDecimal newLowerBound = lowerBound.add(range.multiply(currentInterval.v1));
-        BigDecimal newUpperBound = lowerBound.add(range.multiply(currentInterval.v2));
+            // 2. Retrieves the interval for the found character
+            TupleValue currentInterval = intervals.get(currentChar);
 
-        // 4. Rescales the decodingValue
-        BigDecimal intervalSize = currentInterval.v2.subtract(currentInterval.v1);
-        BigDecimal newDecodingValue = decodingValue
-                .subtract(currentInterval.v1)
-                .divide(intervalSize, precisionScale, RoundingMode.HALF_UP);
+            // 3. Calculates new bounds (lower and upper)
+            BigDecimal range = upperBound.subtract(lowerBound);
+            BigDecimal newLowerBound = lowerBound.add(range.multiply(currentInterval.v1));
+            BigDecimal newUpperBound = lowerBound.add(range.multiply(currentInterval.v2));
+            lowerBound = newLowerBound;
+            upperBound = newUpperBound;
 
-        // 5. Recursively executes for the next character until we hit the stopWord or maxIterations
-        return decodeArithmeticallyEncodedMessageRecursive(
-                newDecodingValue,
-                intervals,
-                currentIndex + 1,
-                maxIterations,
-                decodedMessage,
-                newLowerBound,
-                newUpperBound,
-                stopWord,
-                precisionScale
-        );
+            // 4. Rescales the decodingValue for the next character
+            BigDecimal intervalSize = currentInterval.v2.subtract(currentInterval.v1);
+            decodingValue = decodingValue
+                    .subtract(currentInterval.v1)
+                    .divide(intervalSize, precisionScale, RoundingMode.HALF_UP);
+        }
+        return decodedMessage.toString();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 
 /**
  * ArithmeticEncoder class for encoding a message using arithmetic encoding.
@@ -15,14 +16,28 @@ public class ArithmeticEncoder {
      * @param message        The message to encode
      * @param precisionScale How many digits of precision to use when calculating probabilities and final encoded value
      * @return The arithmetic-encoded BigDecimal value
+     * @throws CancellationException if the encoding thread is interrupted
      */
     public static BigDecimal encodeMessage(String message, int precisionScale) {
+        return encode(message, precisionScale).encodedValue;
+    }
+
+    /**
+     * Method to encode the given message, returning the encoded value together with the character counts
+     * and probabilities used for it (the probabilities are the table needed for decoding).
+     *
+     * @param message        The message to encode
+     * @param precisionScale How many digits of precision to use when calculating probabilities and final encoded value
+     * @return The encoded value and its model
+     * @throws CancellationException if the encoding thread is interrupted
+     */
+    public static EncodingResult encode(String message, int precisionScale) {
         if (precisionScale < 1) {
             throw new IllegalArgumentException("Precision scale must be greater than 0");
         }
 
         // 1. Fills a TreeMap with character counts from the message
-        TreeMap<Character, Integer> characterCountsTreemap = fillCharacterCountsTreemap(message);
+        TreeMap<Character, Integer> characterCountsTreemap = CharacterHistogram.countCharacters(message);
 
         // 2. Converts the counts to probabilities in a TreeMap using the given precision scale
         TreeMap<Character, BigDecimal> characterProbabilitiesTreemap = fillCharacterProbabilitiesTreemap(
@@ -34,31 +49,14 @@ public class ArithmeticEncoder {
         // 3. Builds intervals from the probabilities
         TreeMap<Character, TupleValue> characterIntervalsTreemap = fillCharacterIntervalsTreemap(characterProbabilitiesTreemap);
 
-        // 4. Narrows down the interval recursively to get the final encoding value
+        // 4. Narrows down the interval character by character to get the final encoding value
         BigDecimal arithmeticEncodingValue = calculateArithmeticEncodingValue(
                 message,
                 characterIntervalsTreemap,
-                0,
-                BigDecimal.ZERO,
-                BigDecimal.ONE,
                 precisionScale
         );
 
-        return arithmeticEncodingValue;
-    }
-
-    /**
-     * Method to fill a TreeMap with character counts for each distinct character in the message
-     *
-     * @param message The string to parse
-     * @return A TreeMap from characters to their frequency counts
-     */
-    private static TreeMap<Character, Integer> fillCharacterCountsTreemap(String message) {
-        TreeMap<Character, Integer> characterCountsTreemap = new TreeMap<>();
-        for (Character character : message.toCharArray()) {
-            characterCountsTreemap.put(character, characterCountsTreemap.getOrDefault(character, 0) + 1);
-        }
-        return characterCountsTreemap;
+        return new EncodingResult(arithmeticEncodingValue, characterCountsTreemap, characterProbabilitiesTreemap, precisionScale);
     }
 
     /**
@@ -111,48 +109,42 @@ public class ArithmeticEncoder {
     }
 
     /**
-     * Recursive method to calculate the final arithmetic encoding value
+     * Calculates the final arithmetic encoding value by narrowing down the interval once per character
+     * (iteratively, so that the message length is not limited by the thread's stack size)
      *
      * @param messageToEncode The full message to encode
      * @param characterIntervalsTreemap Map of intervals for each character
-     * @param currentIndex The current character index in the message
-     * @param lowerBound Current lower bound
-     * @param upperBound Current upper bound
      * @param precisionScale User-specified number of digits for final midpoint
      * @return The final arithmetic encoding value as a BigDecimal
      */
     private static BigDecimal calculateArithmeticEncodingValue(
             String messageToEncode,
             TreeMap<Character, TupleValue> characterIntervalsTreemap,
-            int currentIndex,
-            BigDecimal lowerBound,
-            BigDecimal upperBound,
             int precisionScale
     ) {
-        // Stops the recursion when the end of the message is reached
-        if (currentIndex == messageToEncode.length()) {
-            return (lowerBound.add(upperBound))
-                    .divide(BigDecimal.valueOf(2), precisionScale, RoundingMode.HALF_UP);
-        }
+        BigDecimal lowerBound = BigDecimal.ZERO;
+        BigDecimal upperBound = BigDecimal.ONE;
 
-        // Identifies the current character
-        char currentChar = messageToEncode.charAt(currentIndex);
-        TupleValue currentInterval = characterIntervalsTreemap.get(currentChar);
+        for (int currentIndex = 0; currentIndex < messageToEncode.length(); currentIndex++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Encoding was interrupted after " + currentIndex + " characters");
+            }
 
-        BigDecimal range = upperBound.subtract(lowerBound);
+            // Identifies the current character
+            char currentChar = messageToEncode.charAt(currentIndex);
+            TupleValue currentInterval = characterIntervalsTreemap.get(currentChar);
 
-        // New calculated bounds
-        BigDecimal newLowerBound = lowerBound.add(range.multiply(currentInterval.v1));
-        BigDecimal newUpperBound = lowerBound.add(range.multiply(currentInterval.v2));
+            BigDecimal range = upperBound.subtract(lowerBound);
 
-        // Recursively executes itself and encodes the message until the end of the message is reached
-        return calculateArithmeticEncodingValue(
-                messageToEncode,
-                characterIntervalsTreemap,
-                currentIndex + 1,
-                newLowerBound,
-                newUpperBound,
-                precisionScale
-        );
+            // New calculated bounds
+            BigDecimal newLowerBound = lowerBound.add(range.multiply(currentInterval.v1));
+            BigDecimal newUpperBound = lowerBound.add(range.multiply(currentInterval.v2));
+            lowerBound = newLowerBound;
+            upperBound = newUpperBound;
+        }
+
+        // The midpoint of the final interval
+        return (lowerBound.add(upperBound))
+                .divide(BigDecimal.valueOf(2), precisionScale, RoundingMode.HALF_UP);
     }
 }
\ No newline at end of file
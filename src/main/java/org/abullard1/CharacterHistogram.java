@@ -0,0 +1,158 @@
+package org.abullard1;
+
+import java.util.TreeMap;
+
+/**
+ * CharacterHistogram class for counting the character frequencies of a message (the order-0 model input).
+ * The histogram includes the following notable features:
+ *  - Messages containing only Latin-1 characters are counted into 256 buckets instead of 65536.
+ *  - Long messages are counted into several interleaved sub-histograms, so that consecutive equal characters
+ *    do not increment the same counter back to back (avoiding store-to-load forwarding stalls), then merged.
+ *  - The Latin-1 range check and the sub-histogram merge use the jdk.incubator.vector module when it is
+ *    present (--add-modules jdk.incubator.vector), and fall back to plain scalar loops otherwise.
+ */
+public class CharacterHistogram {
+    static final int SUB_HISTOGRAMS = 4;
+    static final int SUB_HISTOGRAM_MIN_LENGTH = 1 << 12;
+    static final int LATIN1_ALPHABET_SIZE = 256;
+    static final int CHAR_ALPHABET_SIZE = 1 << 16;
+    // Chunk size for checking a String without copying it as a whole
+    static final int LATIN1_CHECK_CHUNK = 1 << 12;
+
+    private static final boolean VECTOR_API_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Returns whether the jdk.incubator.vector module was resolved at startup.
+     */
+    public static boolean isVectorApiAvailable() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Counts the frequency of each distinct character in the message.
+     *
+     * @param message The string to parse
+     * @return A TreeMap from characters to their frequency counts
+     */
+    public static TreeMap<Character, Integer> countCharacters(String message) {
+        return countCharacters(message, VECTOR_API_AVAILABLE);
+    }
+
+    /**
+     * Counts the frequency of each distinct character in the message, choosing the vector or scalar kernels.
+     *
+     * @param message      The string to parse
+     * @param useVectorApi Whether to use the jdk.incubator.vector kernels (must only be true if the module is available)
+     * @return A TreeMap from characters to their frequency counts
+     */
+    static TreeMap<Character, Integer> countCharacters(String message, boolean useVectorApi) {
+        int[] counts = count(message.toCharArray(), useVectorApi);
+
+        TreeMap<Character, Integer> characterCountsTreemap = new TreeMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] != 0) {
+                characterCountsTreemap.put((char) c, counts[c]);
+            }
+        }
+        return characterCountsTreemap;
+    }
+
+    /**
+     * Counts the characters into a flat histogram indexed by character value.
+     *
+     * @param chars        The characters to count
+     * @param useVectorApi Whether to use the jdk.incubator.vector kernels (must only be true if the module is available)
+     * @return The counts, of length 256 if all characters are Latin-1, else of length 65536
+     */
+    static int[] count(char[] chars, boolean useVectorApi) {
+        // 1. Picks the smallest alphabet that covers the message
+        boolean latin1 = useVectorApi
+                ? VectorHistogramKernels.allBelow(chars, chars.length, LATIN1_ALPHABET_SIZE)
+                : allBelow(chars, chars.length, LATIN1_ALPHABET_SIZE);
+        int alphabetSize = latin1 ? LATIN1_ALPHABET_SIZE : CHAR_ALPHABET_SIZE;
+
+        // 2. Short messages are not worth the extra sub-histograms
+        if (chars.length < SUB_HISTOGRAM_MIN_LENGTH) {
+            int[] counts = new int[alphabetSize];
+            for (char c : chars) {
+                counts[c]++;
+            }
+            return counts;
+        }
+
+        // 3. Counts into interleaved sub-histograms and merges them
+        int[] subHistograms = countInterleaved(chars, alphabetSize);
+        return useVectorApi
+                ? VectorHistogramKernels.merge(subHistograms, alphabetSize, SUB_HISTOGRAMS)
+                : merge(subHistograms, alphabetSize);
+    }
+
+    /**
+     * Checks whether every character of the message is a Latin-1 character (below 256).
+     * The message is copied LATIN1_CHECK_CHUNK characters at a time into one small buffer instead of as a whole,
+     * and the check stops at the first chunk containing a wider character.
+     */
+    static boolean isLatin1(String message) {
+        int length = message.length();
+        char[] chunk = new char[Math.min(length, LATIN1_CHECK_CHUNK)];
+        for (int start = 0; start < length; start += chunk.length) {
+            int count = Math.min(chunk.length, length - start);
+            message.getChars(start, start + count, chunk, 0);
+            boolean latin1 = VECTOR_API_AVAILABLE
+                    ? VectorHistogramKernels.allBelow(chunk, count, LATIN1_ALPHABET_SIZE)
+                    : allBelow(chunk, count, LATIN1_ALPHABET_SIZE);
+            if (!latin1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts character i into sub-histogram (i % SUB_HISTOGRAMS), all stored back to back in one array.
+     */
+    private static int[] countInterleaved(char[] chars, int alphabetSize) {
+        int[] subHistograms = new int[SUB_HISTOGRAMS * alphabetSize];
+        int offset1 = alphabetSize;
+        int offset2 = 2 * alphabetSize;
+        int offset3 = 3 * alphabetSize;
+
+        int i = 0;
+        for (; i + SUB_HISTOGRAMS <= chars.length; i += SUB_HISTOGRAMS) {
+            subHistograms[chars[i]]++;
+            subHistograms[offset1 + chars[i + 1]]++;
+            subHistograms[offset2 + chars[i + 2]]++;
+            subHistograms[offset3 + chars[i + 3]]++;
+        }
+        for (; i < chars.length; i++) {
+            subHistograms[chars[i]]++;
+        }
+        return subHistograms;
+    }
+
+    /**
+     * Scalar merge of the sub-histograms into a single histogram.
+     */
+    private static int[] merge(int[] subHistograms, int alphabetSize) {
+        int[] counts = new int[alphabetSize];
+        for (int h = 0; h < SUB_HISTOGRAMS; h++) {
+            int offset = h * alphabetSize;
+            for (int c = 0; c < alphabetSize; c++) {
+                counts[c] += subHistograms[offset + c];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Scalar check whether each of the first length characters is below the given bound.
+     */
+    private static boolean allBelow(char[] chars, int length, int bound) {
+        for (int i = 0; i < length; i++) {
+            if (chars[i] >= bound) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package org.abullard1;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * CodecHttpServer class providing a loopback-only HTTP front end to a CodecService, intended for local load testing.
+ * Endpoints (all POST, UTF-8 bodies):
+ *  - /encode?precision=N  body: the message, response: the encoded numerical value
+ *  - /decode?length=L&stopWord=S&precision=N  body: the numerical value on the first line, followed by the probability table
+ *    (length or stopWord is required, decoding stops after length characters or at the stop word, whichever comes first)
+ * Status codes: 400 for invalid input, 503 when admission is rejected, 504 when the request timeout elapses, 500 otherwise.
+ */
+public class CodecHttpServer {
+    private final CodecService codecService;
+    private final HttpServer httpServer;
+    private final ExecutorService httpExecutor;
+
+    /**
+     * Creates a server bound to the loopback interface on the given port (0 picks a free port).
+     */
+    public CodecHttpServer(CodecService codecService, int port) throws IOException {
+        this.codecService = codecService;
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.httpExecutor = CodecService.newVirtualThreadExecutor();
+        this.httpServer.setExecutor(httpExecutor);
+        this.httpServer.createContext("/encode", this::handleEncode);
+        this.httpServer.createContext("/decode", this::handleDecode);
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+        httpExecutor.shutdownNow();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Handles /encode requests.
+     */
+    private void handleEncode(HttpExchange exchange) throws IOException {
+        handle(exchange, (body, parameters) -> {
+            String precision = parameters.getOrDefault("precision", ConfigLoader.getProperty("default.precision"));
+            return codecService.encode(body, Integer.parseInt(precision)).toPlainString();
+        });
+    }
+
+    /**
+     * Handles /decode requests. Uses the same automatic precision as the UI if none is given.
+     */
+    private void handleDecode(HttpExchange exchange) throws IOException {
+        handle(exchange, (body, parameters) -> {
+            String[] valueAndTable = body.split("\\r?\\n", 2);
+            if (valueAndTable.length != 2) {
+                throw new IllegalArgumentException("Expected the numerical value followed by the probability table");
+            }
+            BigDecimal decodingValue = new BigDecimal(valueAndTable[0].trim());
+            TreeMap<Character, BigDecimal> probs = ProbabilityTableFormat.parse(valueAndTable[1]);
+
+            int precision = parameters.containsKey("precision")
+                    ? Integer.parseInt(parameters.get("precision"))
+                    : decodingValue.scale() + Integer.parseInt(ConfigLoader.getProperty("auto.precision.buffer.size"));
+
+            // Without a stop word there is no natural end, so the caller has to say how many characters to decode
+            String stopWord = parameters.get("stopWord");
+            int length;
+            if (parameters.containsKey("length")) {
+                length = Integer.parseInt(parameters.get("length"));
+            } else if (stopWord != null && !stopWord.isEmpty()) {
+                length = codecService.getMaxDecodeLength();
+            } else {
+                throw new IllegalArgumentException("Either a length or a stopWord parameter is required");
+            }
+            return codecService.decode(decodingValue, probs, stopWord, precision, length);
+        });
+    }
+
+    /**
+     * Reads the request, runs the operation and maps its outcome to a status code.
+     */
+    private void handle(HttpExchange exchange, CodecOperation operation) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Only POST is supported");
+                return;
+            }
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            try {
+                respond(exchange, 200, operation.apply(body, parameters));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                respond(exchange, 400, String.valueOf(e.getMessage()));
+            } catch (RejectedExecutionException e) {
+                respond(exchange, 503, e.getMessage());
+            } catch (TimeoutException e) {
+                respond(exchange, 504, e.getMessage());
+            } catch (RuntimeException e) {
+                respond(exchange, 500, String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] tokens = pair.split("=", 2);
+            String value = tokens.length == 2 ? URLDecoder.decode(tokens[1], StandardCharsets.UTF_8) : "";
+            parameters.put(URLDecoder.decode(tokens[0], StandardCharsets.UTF_8), value);
+        }
+        return parameters;
+    }
+
+    /**
+     * An encode or decode operation on a request body and its query parameters.
+     */
+    @FunctionalInterface
+    private interface CodecOperation {
+        String apply(String body, Map<String, String> parameters) throws TimeoutException;
+    }
+
+    /**
+     * Starts the loopback server on the configured "service.http.port" with the configured service limits.
+     */
+    public static void main(String[] args) throws IOException {
+        CodecService codecService = CodecService.fromConfig();
+        CodecHttpServer server = new CodecHttpServer(codecService, Integer.parseInt(ConfigLoader.getProperty("service.http.port")));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            codecService.close();
+        }));
+        server.start();
+        System.out.println("Codec service listening on http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+    }
+}
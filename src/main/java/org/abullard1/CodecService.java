@@ -0,0 +1,200 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CodecService class for running encode/decode jobs concurrently.
+ * The service includes the following notable features:
+ *  - Jobs run on virtual threads when the runtime supports them (a cached thread pool otherwise).
+ *  - Bounded admission: at most maxConcurrentRequests jobs are in flight, callers wait at most admissionTimeoutMillis for a slot.
+ *  - Per-request timeouts: a job exceeding requestTimeoutMillis is interrupted and a TimeoutException is thrown.
+ *  - Per-request decode lengths, bounded only by the maxDecodeLength sanity ceiling.
+ */
+public class CodecService implements AutoCloseable {
+    private final ExecutorService executor;
+    private final Semaphore admissionPermits;
+    private final long admissionTimeoutMillis;
+    private final long requestTimeoutMillis;
+    private final int maxDecodeLength;
+
+    /**
+     * Creates a codec service running its jobs on the given executor.
+     *
+     * @param executor               The executor the encode/decode jobs are submitted to
+     * @param maxConcurrentRequests  How many jobs may be in flight at the same time
+     * @param admissionTimeoutMillis How long a caller waits for a free slot before being rejected
+     * @param requestTimeoutMillis   How long a single job may run before it is cancelled
+     * @param maxDecodeLength        The ceiling for the length a single decode request may ask for
+     */
+    public CodecService(ExecutorService executor,
+                        int maxConcurrentRequests,
+                        long admissionTimeoutMillis,
+                        long requestTimeoutMillis,
+                        int maxDecodeLength) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Maximum concurrent requests must be greater than 0");
+        }
+        if (admissionTimeoutMillis < 0 || requestTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Timeouts must not be negative and the request timeout must be greater than 0");
+        }
+        if (maxDecodeLength < 0) {
+            throw new IllegalArgumentException("Maximum decode length must not be negative");
+        }
+        this.executor = executor;
+        this.admissionPermits = new Semaphore(maxConcurrentRequests, true);
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.maxDecodeLength = maxDecodeLength;
+    }
+
+    /**
+     * Creates a codec service on a virtual thread executor, using the "service.*" limits from the config.properties file.
+     */
+    public static CodecService fromConfig() {
+        return new CodecService(
+                newVirtualThreadExecutor(),
+                Integer.parseInt(ConfigLoader.getProperty("service.max.concurrent.requests")),
+                Long.parseLong(ConfigLoader.getProperty("service.admission.timeout.millis")),
+                Long.parseLong(ConfigLoader.getProperty("service.request.timeout.millis")),
+                Integer.parseInt(ConfigLoader.getProperty("service.decode.max.length"))
+        );
+    }
+
+    /**
+     * Encodes the given message on the service executor.
+     *
+     * @param message        The message to encode
+     * @param precisionScale How many digits of precision to use
+     * @return The arithmetic-encoded BigDecimal value
+     * @throws RejectedExecutionException if no slot became free within the admission timeout
+     * @throws TimeoutException           if encoding took longer than the request timeout
+     */
+    public BigDecimal encode(String message, int precisionScale) throws TimeoutException {
+        return run(() -> ArithmeticEncoder.encodeMessage(message, precisionScale));
+    }
+
+    /**
+     * Decodes the given value on the service executor, producing at most maxLength characters.
+     *
+     * @param decodingValue  The arithmetic-encoded BigDecimal
+     * @param charProbMap    A TreeMap of characters to their probabilities
+     * @param stopWord       An optional string that ends decoding once encountered
+     * @param precisionScale The precision/scale for dividing the decodingValue
+     * @param maxLength      The maximum number of characters to decode (at most the service's maxDecodeLength)
+     * @return The decoded message
+     * @throws RejectedExecutionException if no slot became free within the admission timeout
+     * @throws TimeoutException           if decoding took longer than the request timeout
+     */
+    public String decode(BigDecimal decodingValue,
+                         TreeMap<Character, BigDecimal> charProbMap,
+                         String stopWord,
+                         int precisionScale,
+                         int maxLength) throws TimeoutException {
+        if (maxLength < 0 || maxLength > maxDecodeLength) {
+            throw new IllegalArgumentException("Decode length must be between 0 and " + maxDecodeLength);
+        }
+        return run(() -> ArithmeticDecoder.decodeMessage(decodingValue, charProbMap, stopWord, precisionScale, maxLength));
+    }
+
+    /**
+     * Returns the ceiling for the length a single decode request may ask for.
+     */
+    public int getMaxDecodeLength() {
+        return maxDecodeLength;
+    }
+
+    /**
+     * Runs a job once a slot is free and waits for its result, cancelling it when the request timeout elapses.
+     * The slot is only freed once the job has actually finished, as a cancelled job keeps running until its next interrupt check.
+     */
+    private <T> T run(Callable<T> job) throws TimeoutException {
+        // 1. Bounded admission, rejects the caller instead of queueing without limit
+        try {
+            if (!admissionPermits.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Codec service is at capacity");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for admission");
+        }
+
+        // 2. Runs the job, which releases the permit itself once it is done. Whoever claims the permit first releases it,
+        //    so that a job cancelled before it started (and therefore never runs) does not leak it
+        AtomicBoolean permitClaimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!permitClaimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return job.call();
+                } finally {
+                    admissionPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admissionPermits.release();
+            throw e;
+        }
+
+        // 3. Waits for the result, interrupting the job if it exceeds the request timeout
+        try {
+            return future.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(future, permitClaimed);
+            throw new TimeoutException("Request exceeded " + requestTimeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            cancel(future, permitClaimed);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the result");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Interrupts the job, and releases its permit if the job had not started yet (it then never will).
+     */
+    private void cancel(Future<?> future, AtomicBoolean permitClaimed) {
+        future.cancel(true);
+        if (permitClaimed.compareAndSet(false, true)) {
+            admissionPermits.release();
+        }
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor if the runtime provides one (Java 21+), else a cached thread pool.
+     * The cached pool stays bounded because admission never lets more than maxConcurrentRequests jobs in.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Shuts down the executor, interrupting jobs that are still running.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,22 @@
+package org.abullard1;
+
+/**
+ * CompressibilityEstimate class for holding the result of a CompressibilityEstimator pre-pass.
+ */
+public class CompressibilityEstimate {
+    // Order-0 entropy of the sampled characters, i.e. the average code length an ideal static model achieves
+    public final double entropyBitsPerCharacter;
+    // Estimated size of the rANS-encoded message, including header and flushed states
+    public final long estimatedEncodedBytes;
+    // Size of the message stored raw (1 byte per character if Latin-1, else 2)
+    public final long rawBytes;
+    // Whether encoding is expected to save enough compared to storing the message raw
+    public final boolean compressible;
+
+    public CompressibilityEstimate(double entropyBitsPerCharacter, long estimatedEncodedBytes, long rawBytes, boolean compressible) {
+        this.entropyBitsPerCharacter = entropyBitsPerCharacter;
+        this.estimatedEncodedBytes = estimatedEncodedBytes;
+        this.rawBytes = rawBytes;
+        this.compressible = compressible;
+    }
+}
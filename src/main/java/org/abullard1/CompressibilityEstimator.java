@@ -0,0 +1,110 @@
+package org.abullard1;
+
+import java.util.Arrays;
+
+/**
+ * CompressibilityEstimator class for deciding, before encoding, whether a message is worth encoding at all.
+ * The estimate only looks at a sample of the message (evenly spaced blocks, sampleSize characters in total),
+ * computes the order-0 entropy of the sampled histogram and compares the resulting encoded size with the raw size.
+ * Random or already-compressed data has an entropy close to the raw character width and is reported as incompressible.
+ */
+public class CompressibilityEstimator {
+    private static final int SAMPLE_BLOCKS = 16;
+
+    /**
+     * Estimates the compressibility using the configured sample size and maximum size ratio.
+     *
+     * @param message The message to estimate
+     * @param streams How many interleaved rANS streams the message would be encoded with
+     * @return The estimate
+     */
+    public static CompressibilityEstimate estimate(String message, int streams) {
+        return estimate(message, streams, CharacterHistogram.isLatin1(message));
+    }
+
+    /**
+     * Same as estimate(message, streams), for callers that already know whether the message is all Latin-1.
+     */
+    static CompressibilityEstimate estimate(String message, int streams, boolean latin1) {
+        return estimate(
+                message,
+                streams,
+                latin1,
+                Integer.parseInt(ConfigLoader.getProperty("compressibility.sample.size")),
+                Double.parseDouble(ConfigLoader.getProperty("compressibility.max.ratio"))
+        );
+    }
+
+    /**
+     * Estimates the compressibility from a sample of the message.
+     *
+     * @param message    The message to estimate
+     * @param streams    How many interleaved rANS streams the message would be encoded with
+     * @param sampleSize How many characters to sample at most
+     * @param maxRatio   The largest encoded/raw size ratio that still counts as compressible
+     * @return The estimate
+     */
+    public static CompressibilityEstimate estimate(String message, int streams, int sampleSize, double maxRatio) {
+        return estimate(message, streams, CharacterHistogram.isLatin1(message), sampleSize, maxRatio);
+    }
+
+    /**
+     * Estimates the compressibility from a sample of the message, with the raw width given by latin1
+     * (which depends on the whole message, not the sample).
+     */
+    static CompressibilityEstimate estimate(String message, int streams, boolean latin1, int sampleSize, double maxRatio) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be greater than 0");
+        }
+        int length = message.length();
+
+        // 1. Samples the message, short messages are taken as a whole
+        char[] sample = sample(message, sampleSize);
+
+        // 2. Order-0 entropy of the sampled histogram
+        int[] counts = CharacterHistogram.count(sample, CharacterHistogram.isVectorApiAvailable());
+        double entropy = 0;
+        int distinctCharacters = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                double probability = (double) count / sample.length;
+                entropy -= probability * Math.log(probability);
+                distinctCharacters++;
+            }
+        }
+        // Miller-Madow correction, a sample underestimates the entropy of large alphabets (e.g. random UTF-16 data)
+        if (sample.length > 0) {
+            entropy += (distinctCharacters - 1) / (2.0 * sample.length);
+        }
+        entropy /= Math.log(2);
+
+        // 3. Compares the estimated encoded size with the raw size
+        long estimatedEncodedBytes = RansEncoder.HEADER_SIZE + 4L * streams + (long) Math.ceil(length * entropy / 8);
+        int rawBytesPerCharacter = latin1 ? 1 : 2;
+        long rawBytes = RansEncoder.HEADER_SIZE + (long) rawBytesPerCharacter * length;
+
+        return new CompressibilityEstimate(entropy, estimatedEncodedBytes, rawBytes, estimatedEncodedBytes <= rawBytes * maxRatio);
+    }
+
+    /**
+     * Copies SAMPLE_BLOCKS evenly spaced blocks of the message, sampleSize characters in total.
+     */
+    private static char[] sample(String message, int sampleSize) {
+        int length = message.length();
+        if (length <= sampleSize) {
+            return message.toCharArray();
+        }
+
+        char[] sample = new char[sampleSize];
+        int blockSize = (sampleSize + SAMPLE_BLOCKS - 1) / SAMPLE_BLOCKS;
+        long stride = length / SAMPLE_BLOCKS;
+        int filled = 0;
+        for (int block = 0; block < SAMPLE_BLOCKS && filled < sampleSize; block++) {
+            int start = (int) (block * stride);
+            int count = Math.min(Math.min(blockSize, sampleSize - filled), length - start);
+            message.getChars(start, start + count, sample, filled);
+            filled += count;
+        }
+        return Arrays.copyOf(sample, filled);
+    }
+}
@@ -0,0 +1,24 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.util.TreeMap;
+
+/**
+ * EncodingResult class for holding the encoded value together with the model the ArithmeticEncoder built for it.
+ */
+public class EncodingResult {
+    public final BigDecimal encodedValue;
+    public final TreeMap<Character, Integer> characterCounts;
+    public final TreeMap<Character, BigDecimal> probabilities;
+    public final int precisionScale;
+
+    public EncodingResult(BigDecimal encodedValue,
+                          TreeMap<Character, Integer> characterCounts,
+                          TreeMap<Character, BigDecimal> probabilities,
+                          int precisionScale) {
+        this.encodedValue = encodedValue;
+        this.characterCounts = characterCounts;
+        this.probabilities = probabilities;
+        this.precisionScale = precisionScale;
+    }
+}
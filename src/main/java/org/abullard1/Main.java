@@ -6,15 +6,16 @@ import javax.swing.*;
 import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.TableModel;
 import javax.swing.text.DefaultCaret;
 import javax.swing.text.JTextComponent;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.function.Supplier;
 
 /**
  * Main class providing a Swing-based GUI for Arithmetic Encoding/Decoding,
@@ -31,7 +32,7 @@ public class Main extends JFrame {
     private JTextArea inputTextArea;
     private JTextField encodePrecisionField;
     private JTextArea numericalValueTextArea;
-    private JTextArea probabilityTableTextArea;
+    private ProbabilityTableModel probabilityTableModel;
     private JButton encodeButton;
 
     // Decode panel components
@@ -119,10 +120,11 @@ public class Main extends JFrame {
         outputPanel.add(createLabeledComponent("Encoded Numerical Value:", new JScrollPane(numericalValueTextArea)));
         outputPanel.add(wrapButton(createCopyButton(numericalValueTextArea)));
 
-        // Probability Table TextArea
-        probabilityTableTextArea = createTextArea(5, 50, false);
-        outputPanel.add(createLabeledComponent("Probability Table (auto-generated):", new JScrollPane(probabilityTableTextArea)));
-        outputPanel.add(wrapButton(createCopyButton(probabilityTableTextArea)));
+        // Probability Table (rows are formatted lazily, only when scrolled into view)
+        probabilityTableModel = new ProbabilityTableModel();
+        JTable probabilityTable = createTable(probabilityTableModel, 5);
+        outputPanel.add(createLabeledComponent("Probability Table (auto-generated):", new JScrollPane(probabilityTable)));
+        outputPanel.add(wrapButton(createCopyButton(probabilityTableModel::toText)));
 
         // Combines top and bottom with JSplitPane
         JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, inputPanel, outputPanel);
@@ -216,27 +218,13 @@ public class Main extends JFrame {
         }
 
         // Performs the Arithmetic Encoding Operation with the specified precision
-        BigDecimal encodedValue = ArithmeticEncoder.encodeMessage(inputText, encodePrecision);
+        EncodingResult result = ArithmeticEncoder.encode(inputText, encodePrecision);
 
         // Displays the encoding result in the numericalValueTextArea
-        numericalValueTextArea.setText(encodedValue.toPlainString());
+        numericalValueTextArea.setText(result.encodedValue.toPlainString());
 
-        // Generates the probability table
-        TreeMap<Character, Integer> charCounts = getCharacterCounts(inputText);
-        TreeMap<Character, BigDecimal> computedProbs = getProbabilities(charCounts, inputText.length(), encodePrecision);
-
-        // Builds a string for the table and displays it in the probabilityTableTextArea (Replacing ' ' with "[space]")
-        StringBuilder sb = new StringBuilder();
-        for (var entry : computedProbs.entrySet()) {
-            char c = entry.getKey();
-            String displayKey = (c == ' ') ? ConfigLoader.getProperty("space.string.replacement.token") : String.valueOf(c);
-
-            sb.append(displayKey).append("=")
-                    .append(entry.getValue().setScale(encodePrecision, RoundingMode.HALF_UP))
-                    .append("\n");
-        }
-
-        probabilityTableTextArea.setText(sb.toString().trim());
+        // Displays the encoder's own probability table (Replacing ' ' with "[space]")
+        probabilityTableModel.setEncodingResult(result);
     }
 
     /**
@@ -268,7 +256,7 @@ public class Main extends JFrame {
         // Parses the probability table text into a TreeMap
         TreeMap<Character, BigDecimal> probs;
         try {
-            probs = parseProbabilityTable(probabilityTable);
+            probs = ProbabilityTableFormat.parse(probabilityTable);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Invalid probability table format", "Error", JOptionPane.ERROR_MESSAGE);
             return;
@@ -325,10 +313,31 @@ public class Main extends JFrame {
         return textArea;
     }
 
+    /**
+     * Creates a non-editable JTable for the given model, showing the specified number of rows without scrolling.
+     */
+    private JTable createTable(TableModel model, int visibleRows) {
+        JTable table = new JTable(model);
+        table.setFont(new Font(ConfigLoader.getProperty("font.family"), Font.PLAIN, Integer.parseInt(ConfigLoader.getProperty("components.font.size"))));
+        // A fixed row height lets the JTable compute its size without measuring each row
+        table.setRowHeight(table.getFontMetrics(table.getFont()).getHeight() + 4);
+        table.setFillsViewportHeight(true);
+        table.setDefaultEditor(Object.class, null);
+        table.setPreferredScrollableViewportSize(new Dimension(table.getPreferredScrollableViewportSize().width, visibleRows * table.getRowHeight()));
+        return table;
+    }
+
     /**
      * Creates a copy-to-clipboard JButton for a given JTextComponent.
      */
     private JButton createCopyButton(JTextComponent component) {
+        return createCopyButton(component::getText);
+    }
+
+    /**
+     * Creates a copy-to-clipboard JButton copying the text supplied at click time.
+     */
+    private JButton createCopyButton(Supplier<String> textSupplier) {
         ImageIcon copyIcon = new ImageIcon(Objects.requireNonNull(getClass().getResource(ConfigLoader.getProperty("copy.icon.path"))));
         Image img = copyIcon.getImage();
         Image scaledImg = img.getScaledInstance(Integer.parseInt(ConfigLoader.getProperty("copy.icon.size")), Integer.parseInt(ConfigLoader.getProperty("copy.icon.size")), Image.SCALE_SMOOTH);
@@ -337,7 +346,7 @@ public class Main extends JFrame {
         JButton button = new JButton(copyIcon);
         Border padding = new EmptyBorder(5, 5, 5, 5);
         button.setBorder(new CompoundBorder(button.getBorder(), padding));
-        button.addActionListener(e -> copyToClipboard(component.getText()));
+        button.addActionListener(e -> copyToClipboard(textSupplier.get()));
         return button;
     }
 
@@ -363,68 +372,6 @@ public class Main extends JFrame {
         clipboard.setContents(stringSelection, null);
     }
 
-    /**
-     * Parses the user-provided probability table.
-     * If line is "[space]=0.2", parses as (char=' ', prob=0.2).
-     */
-    private TreeMap<Character, BigDecimal> parseProbabilityTable(String probabilityTable) {
-        TreeMap<Character, BigDecimal> probs = new TreeMap<>();
-        String[] lines = probabilityTable.split("\\r?\\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) {
-                continue;
-            }
-            String[] tokens = line.split("=");
-            if (tokens.length != 2) {
-                throw new IllegalArgumentException("Invalid probability line format: " + line);
-            }
-
-            String leftSide = tokens[0].trim();
-            BigDecimal p = new BigDecimal(tokens[1].trim());
-
-            // Converts "[space]" back to ' '
-            char c = ' ';
-            if (!ConfigLoader.getProperty("space.string.replacement.token").equals(leftSide)) {
-                // Catches invalid single-char input if not "[space]"
-                if (leftSide.length() != 1) {
-                    throw new IllegalArgumentException(
-                            "Expected single char or " + ConfigLoader.getProperty("space.string.replacement.token") + ": " + leftSide
-                    );
-                }
-                c = leftSide.charAt(0);
-            }
-            // Adds the character and probability to the final parsed probability treemap
-            probs.put(c, p);
-        }
-        return probs;
-    }
-
-    /**
-     * Helper to compute character counts from a string.
-     */
-    private TreeMap<Character, Integer> getCharacterCounts(String message) {
-        TreeMap<Character, Integer> charCounts = new TreeMap<>();
-        for (char c : message.toCharArray()) {
-            charCounts.put(c, charCounts.getOrDefault(c, 0) + 1);
-        }
-        return charCounts;
-    }
-
-    /**
-     * Helper to compute probabilities from character counts, using a given precision scale.
-     */
-    private TreeMap<Character, BigDecimal> getProbabilities(TreeMap<Character, Integer> charCounts, int totalLength, int precision) {
-        TreeMap<Character, BigDecimal> probabilities = new TreeMap<>();
-        BigDecimal total = BigDecimal.valueOf(totalLength);
-        for (var entry : charCounts.entrySet()) {
-            BigDecimal prob = BigDecimal.valueOf(entry.getValue())
-                    .divide(total, precision, RoundingMode.HALF_UP);
-            probabilities.put(entry.getKey(), prob);
-        }
-        return probabilities;
-    }
-
     /**
      * Main entry point. Initializes the FlatDarkLaf UI and runs the application.
      */
@@ -0,0 +1,76 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ProbabilityTableFormat class for converting probability tables to and from their "char=probability" text form.
+ * A space character is written as the configured replacement token (e.g. "[space]").
+ */
+public class ProbabilityTableFormat {
+    /**
+     * Parses a probability table with one "char=probability" entry per line.
+     * If line is "[space]=0.2", parses as (char=' ', prob=0.2).
+     *
+     * @param probabilityTable The probability table text
+     * @return A TreeMap mapping each character to its probability
+     */
+    public static TreeMap<Character, BigDecimal> parse(String probabilityTable) {
+        TreeMap<Character, BigDecimal> probs = new TreeMap<>();
+        String[] lines = probabilityTable.split("\\r?\\n");
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] tokens = line.split("=");
+            if (tokens.length != 2) {
+                throw new IllegalArgumentException("Invalid probability line format: " + line);
+            }
+
+            String leftSide = tokens[0].trim();
+            BigDecimal p = new BigDecimal(tokens[1].trim());
+
+            // Converts "[space]" back to ' '
+            char c = ' ';
+            if (!ConfigLoader.getProperty("space.string.replacement.token").equals(leftSide)) {
+                // Catches invalid single-char input if not "[space]"
+                if (leftSide.length() != 1) {
+                    throw new IllegalArgumentException(
+                            "Expected single char or " + ConfigLoader.getProperty("space.string.replacement.token") + ": " + leftSide
+                    );
+                }
+                c = leftSide.charAt(0);
+            }
+            // Adds the character and probability to the final parsed probability treemap
+            probs.put(c, p);
+        }
+        return probs;
+    }
+
+    /**
+     * Formats a probability table as one "char=probability" entry per line (Replacing ' ' with "[space]").
+     *
+     * @param probabilities  A TreeMap of character probabilities
+     * @param precisionScale How many digits of precision to print for each probability
+     * @return The probability table text
+     */
+    public static String format(TreeMap<Character, BigDecimal> probabilities, int precisionScale) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Character, BigDecimal> entry : probabilities.entrySet()) {
+            sb.append(formatSymbol(entry.getKey())).append("=")
+                    .append(entry.getValue().setScale(precisionScale, RoundingMode.HALF_UP))
+                    .append("\n");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Returns the display form of a single table symbol, replacing ' ' with the configured token.
+     */
+    public static String formatSymbol(char c) {
+        return (c == ' ') ? ConfigLoader.getProperty("space.string.replacement.token") : String.valueOf(c);
+    }
+}
@@ -0,0 +1,86 @@
+package org.abullard1;
+
+import javax.swing.table.AbstractTableModel;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ProbabilityTableModel class backing the JTable that shows the probability table of an EncodingResult.
+ * Rows are only formatted when the JTable asks for them, i.e. when they are scrolled into view,
+ * so huge alphabets at a high precision do not have to be turned into text up front.
+ */
+public class ProbabilityTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"Character", "Count", "Probability"};
+
+    private char[] characters = new char[0];
+    private int[] counts = new int[0];
+    private BigDecimal[] probabilities = new BigDecimal[0];
+    private TreeMap<Character, BigDecimal> probabilityTable = new TreeMap<>();
+    private int precisionScale;
+
+    /**
+     * Replaces the rows with the model of the given encoding result.
+     */
+    public void setEncodingResult(EncodingResult result) {
+        int size = result.probabilities.size();
+        characters = new char[size];
+        counts = new int[size];
+        probabilities = new BigDecimal[size];
+
+        int row = 0;
+        for (Map.Entry<Character, BigDecimal> entry : result.probabilities.entrySet()) {
+            characters[row] = entry.getKey();
+            counts[row] = result.characterCounts.get(entry.getKey());
+            probabilities[row] = entry.getValue();
+            row++;
+        }
+        probabilityTable = result.probabilities;
+        precisionScale = result.precisionScale;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return characters.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 1 ? Integer.class : String.class;
+    }
+
+    /**
+     * Formats a single cell on demand (Replacing ' ' with "[space]").
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0:
+                return ProbabilityTableFormat.formatSymbol(characters[row]);
+            case 1:
+                return counts[row];
+            default:
+                return probabilities[row].setScale(precisionScale, RoundingMode.HALF_UP).toString();
+        }
+    }
+
+    /**
+     * Returns the whole table as "char=probability" lines, as accepted by the Decode tab.
+     * Only called on demand (e.g. when copying), not when the table is displayed.
+     */
+    public String toText() {
+        return ProbabilityTableFormat.format(probabilityTable, precisionScale);
+    }
+}
@@ -0,0 +1,128 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.util.TreeMap;
+
+/**
+ * RansDecoder class for decoding a message encoded by the RansEncoder.
+ * Each character is looked up in the precomputed slot-to-symbol table of the RansModel instead of
+ * searching the intervals, so decoding does a constant amount of work per character.
+ */
+public class RansDecoder {
+    /**
+     * Decodes the bytes using a model built from the given probability table.
+     *
+     * @param encoded       The bytes produced by the RansEncoder
+     * @param probabilities The same probability table that was used for encoding
+     * @return The decoded message
+     */
+    public static String decodeMessage(byte[] encoded, TreeMap<Character, BigDecimal> probabilities) {
+        return decodeMessage(encoded, RansModel.fromProbabilities(probabilities));
+    }
+
+    /**
+     * Decodes the bytes using the given model.
+     *
+     * @param encoded The bytes produced by the RansEncoder
+     * @param model   The same model that was used for encoding
+     * @return The decoded message
+     */
+    public static String decodeMessage(byte[] encoded, RansModel model) {
+        // 1. Reads and validates the header
+        if (encoded.length < RansEncoder.HEADER_SIZE) {
+            throw new IllegalArgumentException("Encoded data is shorter than the header");
+        }
+        int mode = encoded[0];
+        int streams = encoded[1];
+        int length = readInt(encoded, 2);
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid header");
+        }
+        if (mode == RansEncoder.MODE_RAW_LATIN1 || mode == RansEncoder.MODE_RAW_UTF16) {
+            return decodeRaw(encoded, mode, length);
+        }
+        if (mode != RansEncoder.MODE_RANS) {
+            throw new IllegalArgumentException("Unknown encoding mode: " + mode);
+        }
+        if (streams < 1 || streams > RansEncoder.MAX_STREAMS) {
+            throw new IllegalArgumentException("Invalid header");
+        }
+
+        try {
+            // 2. Initializes the states in the order the encoder flushed them
+            int position = RansEncoder.HEADER_SIZE;
+            long[] states = new long[streams];
+            for (int s = 0; s < streams; s++) {
+                states[s] = readInt(encoded, position) & 0xFFFFFFFFL;
+                position += 4;
+            }
+
+            // 3. Decodes forwards, character i from state (i % streams)
+            int[] frequencies = model.frequencies;
+            int[] cumulativeFrequencies = model.cumulativeFrequencies;
+            char[] slotToSymbol = model.slotToSymbol;
+            char[] decoded = new char[length];
+            int stream = 0;
+            for (int i = 0; i < length; i++) {
+                long state = states[stream];
+                int slot = (int) state & (RansModel.SCALE - 1);
+                char c = slotToSymbol[slot];
+                decoded[i] = c;
+
+                state = frequencies[c] * (state >>> RansModel.SCALE_BITS) + slot - cumulativeFrequencies[c];
+                if (state < RansEncoder.RANS_LOWER_BOUND) {
+                    state = (state << 16) | ((encoded[position] & 0xFF) << 8) | (encoded[position + 1] & 0xFF);
+                    position += 2;
+                }
+                states[stream] = state;
+
+                stream = (stream == streams - 1) ? 0 : stream + 1;
+            }
+
+            // 4. The encoder started every state at the lower bound and wrote exactly the bytes read, anything else is corrupt
+            for (long state : states) {
+                if (state != RansEncoder.RANS_LOWER_BOUND) {
+                    throw new IllegalArgumentException("Encoded data is corrupt or was encoded with a different model");
+                }
+            }
+            if (position != encoded.length) {
+                throw new IllegalArgumentException("Encoded data has trailing bytes");
+            }
+            return new String(decoded);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Encoded data is truncated");
+        }
+    }
+
+    /**
+     * Decodes a message the RansEncoder stored raw (1 byte per character for Latin-1, 2 bytes for UTF-16).
+     */
+    private static String decodeRaw(byte[] encoded, int mode, int length) {
+        int bytesPerCharacter = (mode == RansEncoder.MODE_RAW_LATIN1) ? 1 : 2;
+        if (encoded.length != RansEncoder.HEADER_SIZE + (long) bytesPerCharacter * length) {
+            throw new IllegalArgumentException("Encoded data does not match the stored length");
+        }
+
+        char[] decoded = new char[length];
+        int position = RansEncoder.HEADER_SIZE;
+        for (int i = 0; i < length; i++) {
+            if (bytesPerCharacter == 1) {
+                decoded[i] = (char) (encoded[position++] & 0xFF);
+            } else {
+                decoded[i] = (char) (((encoded[position] & 0xFF) << 8) | (encoded[position + 1] & 0xFF));
+                position += 2;
+            }
+        }
+        return new String(decoded);
+    }
+
+    /**
+     * Reads a big-endian int.
+     */
+    static int readInt(byte[] buffer, int offset) {
+        return ((buffer[offset] & 0xFF) << 24)
+                | ((buffer[offset + 1] & 0xFF) << 16)
+                | ((buffer[offset + 2] & 0xFF) << 8)
+                | (buffer[offset + 3] & 0xFF);
+    }
+}
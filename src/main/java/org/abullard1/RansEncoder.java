@@ -0,0 +1,174 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * RansEncoder class for encoding a message using interleaved range asymmetric numeral systems (rANS).
+ * Unlike the ArithmeticEncoder, where every character depends on the interval of the previous one,
+ * character i is coded by state (i % streams), so consecutive characters update independent states
+ * and the CPU can overlap their work. All states share one byte stream and the same RansModel.
+ * States are 32 bits wide and renormalize 16 bits at a time, so every character reads or writes at most
+ * one 16-bit word and the renormalization needs no data-dependent loop.
+ * Output layout: [mode:1][streams:1][length:4][states: 4 * streams][renormalization words: 2 each]
+ * Incompressible messages can instead be stored raw: [mode:1][0][length:4][1 byte per Latin-1 / 2 bytes per other character]
+ */
+public class RansEncoder {
+    static final int MODE_RANS = 0;
+    static final int MODE_RAW_LATIN1 = 1;
+    static final int MODE_RAW_UTF16 = 2;
+    static final int HEADER_SIZE = 6;
+    static final int MAX_STREAMS = 8;
+    // Lower bound of the normalized state interval [L, 2^16 * L), word-wise renormalization
+    static final long RANS_LOWER_BOUND = 1L << 16;
+
+    /**
+     * Encodes the message with the configured default number of interleaved streams,
+     * storing it raw if configured to and the message turns out to be incompressible.
+     *
+     * @param message       The message to encode
+     * @param probabilities A TreeMap of characters to their probabilities (must contain every character of the message)
+     * @return The encoded bytes
+     */
+    public static byte[] encodeMessage(String message, TreeMap<Character, BigDecimal> probabilities) {
+        return encodeMessage(
+                message,
+                RansModel.fromProbabilities(probabilities),
+                Integer.parseInt(ConfigLoader.getProperty("rans.default.streams")),
+                Boolean.parseBoolean(ConfigLoader.getProperty("rans.store.incompressible.raw"))
+        );
+    }
+
+    /**
+     * Encodes the message, optionally storing it raw instead if it is incompressible.
+     * The CompressibilityEstimator pre-pass skips the rANS coding entirely for messages it estimates as incompressible;
+     * if coding still turns out larger than the raw message (e.g. because the probability table does not fit the message),
+     * the raw message is stored as well.
+     *
+     * @param message                The message to encode
+     * @param model                  The quantized model (must contain every character of the message)
+     * @param streams                How many independent rANS states to interleave (1 to 8)
+     * @param storeIncompressibleRaw Whether incompressible messages are stored raw
+     * @return The encoded bytes
+     */
+    public static byte[] encodeMessage(String message, RansModel model, int streams, boolean storeIncompressibleRaw) {
+        if (!storeIncompressibleRaw) {
+            return encodeMessage(message, model, streams);
+        }
+
+        // 1. Skips the coding if the sampled entropy shows it cannot beat the raw size (checks the raw width only once)
+        boolean latin1 = CharacterHistogram.isLatin1(message);
+        if (!CompressibilityEstimator.estimate(message, streams, latin1).compressible) {
+            return encodeRaw(message, latin1);
+        }
+
+        // 2. Falls back to raw if the coded message is not smaller after all (raw is at least 1 byte per character)
+        byte[] encoded = encodeMessage(message, model, streams);
+        if (encoded.length >= HEADER_SIZE + message.length()) {
+            byte[] raw = encodeRaw(message, latin1);
+            if (raw.length <= encoded.length) {
+                return raw;
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Encodes the message with the given model and number of interleaved streams.
+     *
+     * @param message The message to encode
+     * @param model   The quantized model (must contain every character of the message)
+     * @param streams How many independent rANS states to interleave (1 to 8)
+     * @return The encoded bytes
+     */
+    public static byte[] encodeMessage(String message, RansModel model, int streams) {
+        if (streams < 1 || streams > MAX_STREAMS) {
+            throw new IllegalArgumentException("Number of streams must be between 1 and " + MAX_STREAMS);
+        }
+        int length = message.length();
+
+        // 1. Worst case: one renormalization word per character plus the flushed states
+        long capacity = HEADER_SIZE + 4L * streams + 2L * length;
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Message is too long to be encoded in a single block");
+        }
+        byte[] buffer = new byte[(int) capacity];
+        int position = buffer.length;
+
+        long[] states = new long[streams];
+        Arrays.fill(states, RANS_LOWER_BOUND);
+
+        // 2. Encodes backwards, so that the decoder can read forwards (rANS works like a stack)
+        int[] frequencies = model.frequencies;
+        long[] reciprocalFrequencies = model.reciprocalFrequencies;
+        int[] biases = model.biases;
+        int stream = (length - 1) % streams;
+        for (int i = length - 1; i >= 0; i--) {
+            char c = message.charAt(i);
+            int frequency = frequencies[c];
+            if (frequency == 0) {
+                throw new IllegalArgumentException("Character '" + c + "' at index " + i + " is not part of the probability table");
+            }
+
+            long state = states[stream];
+            // Renormalizes so that the state stays below 2^32 after the encoding step
+            if (state >= (long) frequency << (32 - RansModel.SCALE_BITS)) {
+                buffer[--position] = (byte) state;
+                buffer[--position] = (byte) (state >>> 8);
+                state >>>= 16;
+            }
+            // Same as ((state / frequency) << SCALE_BITS) + (state % frequency) + cumulativeFrequency, without the division
+            long quotient = RansModel.quotient(state, reciprocalFrequencies[c]);
+            states[stream] = state + biases[c] + quotient * (RansModel.SCALE - frequency);
+
+            stream = (stream == 0) ? streams - 1 : stream - 1;
+        }
+
+        // 3. Flushes the states in reverse, so that state 0 comes first
+        for (int s = streams - 1; s >= 0; s--) {
+            position -= 4;
+            writeInt(buffer, position, (int) states[s]);
+        }
+
+        // 4. Prepends the header
+        byte[] encoded = new byte[HEADER_SIZE + buffer.length - position];
+        encoded[0] = (byte) MODE_RANS;
+        encoded[1] = (byte) streams;
+        writeInt(encoded, 2, length);
+        System.arraycopy(buffer, position, encoded, HEADER_SIZE, buffer.length - position);
+        return encoded;
+    }
+
+    /**
+     * Stores the message raw, 1 byte per character if it only contains Latin-1 characters, else 2 bytes (UTF-16).
+     *
+     * @param message The message to store
+     * @param latin1  Whether every character of the message is below 256, see CharacterHistogram.isLatin1
+     */
+    static byte[] encodeRaw(String message, boolean latin1) {
+        int length = message.length();
+        byte[] encoded = new byte[HEADER_SIZE + (latin1 ? length : 2 * length)];
+        encoded[0] = (byte) (latin1 ? MODE_RAW_LATIN1 : MODE_RAW_UTF16);
+        writeInt(encoded, 2, length);
+        int position = HEADER_SIZE;
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            if (!latin1) {
+                encoded[position++] = (byte) (c >>> 8);
+            }
+            encoded[position++] = (byte) c;
+        }
+        return encoded;
+    }
+
+    /**
+     * Writes a big-endian int.
+     */
+    static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,139 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * RansModel class holding the static order-0 model used by the RansEncoder and RansDecoder.
+ * The probabilities of the (same) probability table the ArithmeticEncoder/-Decoder use are quantized
+ * to integer frequencies summing to 2^SCALE_BITS. Every character of the table gets a frequency of at least 1,
+ * even if its probability was rounded to 0.
+ */
+public class RansModel {
+    static final int SCALE_BITS = 16;
+    static final int SCALE = 1 << SCALE_BITS;
+
+    // Indexed by character value, a frequency of 0 means the character is not part of the model
+    final int[] frequencies = new int[CharacterHistogram.CHAR_ALPHABET_SIZE];
+    final int[] cumulativeFrequencies = new int[CharacterHistogram.CHAR_ALPHABET_SIZE];
+    // Decoding lookup: maps each of the 2^SCALE_BITS slots to the character owning it
+    final char[] slotToSymbol = new char[SCALE];
+    // Encoding: state / frequency as a multiplication by a fixed-point reciprocal (indexed by character value)
+    final long[] reciprocalFrequencies = new long[CharacterHistogram.CHAR_ALPHABET_SIZE];
+    final int[] biases = new int[CharacterHistogram.CHAR_ALPHABET_SIZE];
+
+    private RansModel() {
+    }
+
+    /**
+     * Builds a model from a probability table. The probabilities do not have to sum to exactly 1.
+     *
+     * @param probabilities A TreeMap of characters to their probabilities
+     * @return The quantized model
+     */
+    public static RansModel fromProbabilities(TreeMap<Character, BigDecimal> probabilities) {
+        if (probabilities.isEmpty()) {
+            throw new IllegalArgumentException("Probability table must not be empty");
+        }
+        if (probabilities.size() > SCALE) {
+            throw new IllegalArgumentException("Probability table has more than " + SCALE + " characters");
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal probability : probabilities.values()) {
+            if (probability.signum() < 0) {
+                throw new IllegalArgumentException("Probabilities must not be negative");
+            }
+            total = total.add(probability);
+        }
+
+        RansModel model = new RansModel();
+
+        // 1. Quantizes each probability to a frequency of at least 1 (all-zero tables, e.g. from a very low precision, become uniform)
+        BigDecimal scale = BigDecimal.valueOf(SCALE);
+        int frequencySum = 0;
+        for (Map.Entry<Character, BigDecimal> entry : probabilities.entrySet()) {
+            int frequency = total.signum() == 0 ? 1 : entry.getValue().multiply(scale)
+                    .divide(total, 0, RoundingMode.HALF_UP)
+                    .intValue();
+            frequency = Math.max(1, frequency);
+            model.frequencies[entry.getKey()] = frequency;
+            frequencySum += frequency;
+        }
+
+        // 2. Corrects rounding errors so that the frequencies sum to exactly SCALE
+        model.normalize(new ArrayList<>(probabilities.keySet()), SCALE - frequencySum);
+
+        // 3. Builds the cumulative frequencies, the slot lookup table and the reciprocals (in TreeMap order)
+        int cumulativeFrequency = 0;
+        for (char c : probabilities.keySet()) {
+            model.cumulativeFrequencies[c] = cumulativeFrequency;
+            int frequency = model.frequencies[c];
+            for (int slot = cumulativeFrequency; slot < cumulativeFrequency + frequency; slot++) {
+                model.slotToSymbol[slot] = c;
+            }
+            model.initializeReciprocal(c, frequency, cumulativeFrequency);
+            cumulativeFrequency += frequency;
+        }
+        return model;
+    }
+
+    /**
+     * Precomputes the reciprocal so that the encoder can replace
+     *   ((state / frequency) << SCALE_BITS) + (state % frequency) + cumulativeFrequency
+     * by
+     *   state + bias + q * (SCALE - frequency), with q = quotient(state, reciprocal)
+     * The 32-bit reciprocal of ryg_rans is only exact for states below 2^31, while the states here reach 2^32,
+     * so the reciprocal is ceil(2^63 / frequency) and the quotient takes the high half of a 64x64-bit product.
+     */
+    private void initializeReciprocal(char c, int frequency, int cumulativeFrequency) {
+        if (frequency < 2) {
+            // 2^63 does not fit, 2^63 - 1 gives q = state - 1, so state + (SCALE - 1) + (state - 1) * (SCALE - 1) = state * SCALE
+            reciprocalFrequencies[c] = Long.MAX_VALUE;
+            biases[c] = cumulativeFrequency + SCALE - 1;
+        } else {
+            reciprocalFrequencies[c] = Long.MAX_VALUE / frequency + 1;
+            biases[c] = cumulativeFrequency;
+        }
+    }
+
+    /**
+     * Returns state / frequency for a state below 2^32, given the reciprocal ceil(2^63 / frequency).
+     * Exact: the product overshoots state / frequency by less than 2^32 / 2^63, which is smaller than the distance
+     * 1 / frequency of any non-integer quotient to the next integer.
+     */
+    static long quotient(long state, long reciprocal) {
+        return Math.multiplyHigh(state << 1, reciprocal);
+    }
+
+    /**
+     * Adds a positive difference to the most frequent character, or takes a negative difference from the
+     * most frequent characters first while keeping every frequency at least 1.
+     * A single pass suffices: the excess is at most the sum of (frequency - 1), since there are at most SCALE characters.
+     */
+    private void normalize(List<Character> symbols, int difference) {
+        symbols.sort((a, b) -> Integer.compare(frequencies[b], frequencies[a]));
+        if (difference > 0) {
+            frequencies[symbols.get(0)] += difference;
+            return;
+        }
+        int remaining = -difference;
+        for (int i = 0; remaining > 0; i++) {
+            char c = symbols.get(i);
+            int take = Math.min(frequencies[c] - 1, remaining);
+            frequencies[c] -= take;
+            remaining -= take;
+        }
+    }
+
+    /**
+     * Returns whether the given character is part of the model.
+     */
+    public boolean contains(char c) {
+        return frequencies[c] != 0;
+    }
+}
@@ -0,0 +1,59 @@
+package org.abullard1;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorHistogramKernels class holding the jdk.incubator.vector parts of the CharacterHistogram.
+ * This class must only be loaded if the module is available, see {@link CharacterHistogram#isVectorApiAvailable()}.
+ */
+class VectorHistogramKernels {
+    private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Checks whether each of the first length characters is below the given bound, comparing a full vector of characters at a time.
+     */
+    static boolean allBelow(char[] chars, int length, int bound) {
+        short shortBound = (short) bound;
+        int i = 0;
+        int upperBound = SHORT_SPECIES.loopBound(length);
+        for (; i < upperBound; i += SHORT_SPECIES.length()) {
+            ShortVector vector = ShortVector.fromCharArray(SHORT_SPECIES, chars, i);
+            // Characters are unsigned, so the comparison has to be unsigned as well
+            if (vector.compare(VectorOperators.UNSIGNED_GE, shortBound).anyTrue()) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (chars[i] >= bound) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sums the sub-histograms (stored back to back, each of length alphabetSize) lane by lane.
+     */
+    static int[] merge(int[] subHistograms, int alphabetSize, int subHistogramCount) {
+        int[] counts = new int[alphabetSize];
+        int c = 0;
+        int upperBound = INT_SPECIES.loopBound(alphabetSize);
+        for (; c < upperBound; c += INT_SPECIES.length()) {
+            IntVector sum = IntVector.fromArray(INT_SPECIES, subHistograms, c);
+            for (int h = 1; h < subHistogramCount; h++) {
+                sum = sum.add(IntVector.fromArray(INT_SPECIES, subHistograms, h * alphabetSize + c));
+            }
+            sum.intoArray(counts, c);
+        }
+        for (; c < alphabetSize; c++) {
+            for (int h = 0; h < subHistogramCount; h++) {
+                counts[c] += subHistograms[h * alphabetSize + c];
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,136 @@
+package org.abullard1;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * CodecEngines class listing every encoder/decoder pair of the project behind one round-trip interface,
+ * so that the fuzz and throughput tests cover each engine the same way.
+ */
+class CodecEngines {
+    interface CodecEngine {
+        String name();
+
+        // The longest message the engine is expected to handle in a test
+        int maxMessageLength();
+
+        String roundTrip(String message);
+    }
+
+    static List<CodecEngine> all() {
+        return List.of(
+                arithmetic(),
+                rans(1),
+                rans(2),
+                rans(4),
+                rans(8),
+                ransStoringIncompressibleRaw()
+        );
+    }
+
+    /**
+     * ArithmeticEncoder -> ArithmeticDecoder, with enough precision for the information content of the message.
+     */
+    static CodecEngine arithmetic() {
+        return new CodecEngine() {
+            @Override
+            public String name() {
+                return "arithmetic";
+            }
+
+            @Override
+            public int maxMessageLength() {
+                // BigDecimal arithmetic gets quadratically slower with the message length
+                return 64;
+            }
+
+            @Override
+            public String roundTrip(String message) {
+                int informationDigits = informationDigits(message);
+                EncodingResult result = ArithmeticEncoder.encode(message, informationDigits + 10);
+                return ArithmeticDecoder.decodeMessage(
+                        result.encodedValue,
+                        result.probabilities,
+                        null,
+                        2 * informationDigits + 20,
+                        message.length()
+                );
+            }
+        };
+    }
+
+    /**
+     * RansEncoder -> RansDecoder with the given number of interleaved streams.
+     */
+    static CodecEngine rans(int streams) {
+        return new CodecEngine() {
+            @Override
+            public String name() {
+                return "rans." + streams;
+            }
+
+            @Override
+            public int maxMessageLength() {
+                return 1 << 24;
+            }
+
+            @Override
+            public String roundTrip(String message) {
+                RansModel model = RansModel.fromProbabilities(probabilities(message));
+                return RansDecoder.decodeMessage(RansEncoder.encodeMessage(message, model, streams), model);
+            }
+        };
+    }
+
+    /**
+     * RansEncoder with the compressibility pre-pass, storing incompressible messages raw.
+     */
+    static CodecEngine ransStoringIncompressibleRaw() {
+        return new CodecEngine() {
+            @Override
+            public String name() {
+                return "rans.adaptive";
+            }
+
+            @Override
+            public int maxMessageLength() {
+                return 1 << 24;
+            }
+
+            @Override
+            public String roundTrip(String message) {
+                RansModel model = RansModel.fromProbabilities(probabilities(message));
+                return RansDecoder.decodeMessage(RansEncoder.encodeMessage(message, model, 4, true), model);
+            }
+        };
+    }
+
+    /**
+     * Builds the probability table of a message (a dummy table for the empty message).
+     */
+    static TreeMap<Character, BigDecimal> probabilities(String message) {
+        TreeMap<Character, BigDecimal> probabilities = new TreeMap<>();
+        for (Map.Entry<Character, Integer> entry : CharacterHistogram.countCharacters(message).entrySet()) {
+            probabilities.put(entry.getKey(), BigDecimal.valueOf(entry.getValue())
+                    .divide(BigDecimal.valueOf(message.length()), 12, RoundingMode.HALF_UP));
+        }
+        if (probabilities.isEmpty()) {
+            probabilities.put('a', BigDecimal.ONE);
+        }
+        return probabilities;
+    }
+
+    /**
+     * Number of decimal digits needed to tell the message apart from all others under its own order-0 model.
+     */
+    private static int informationDigits(String message) {
+        double digits = 0;
+        for (int count : CharacterHistogram.countCharacters(message).values()) {
+            digits += count * Math.log10((double) message.length() / count);
+        }
+        return (int) Math.ceil(digits);
+    }
+}
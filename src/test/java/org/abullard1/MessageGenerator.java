@@ -0,0 +1,121 @@
+package org.abullard1;
+
+import java.util.Random;
+
+/**
+ * MessageGenerator class for generating random test messages with a chosen alphabet and distribution.
+ */
+class MessageGenerator {
+    enum Alphabet {
+        // A single repeated character
+        SINGLE,
+        // 2 to 4 distinct ASCII letters
+        SMALL,
+        // Printable ASCII
+        ASCII,
+        // All 256 Latin-1 characters
+        LATIN1,
+        // Characters from the Basic Multilingual Plane above Latin-1 (excluding surrogates)
+        BMP,
+        // ASCII letters mixed with supplementary characters, which are encoded as surrogate pairs
+        SURROGATE_PAIRS
+    }
+
+    enum Distribution {
+        UNIFORM,
+        // Geometric-like: low symbol indices are much more frequent than high ones
+        SKEWED,
+        // One dominant symbol with a probability between 0.7 and 0.999, the others uniform
+        HEAVY
+    }
+
+    /**
+     * Generates a message of exactly the given number of chars (a surrogate pair counts as 2).
+     */
+    static String generate(Random random, int length, Alphabet alphabet, Distribution distribution) {
+        String[] symbols = symbols(random, alphabet);
+        double dominantProbability = (distribution == Distribution.HEAVY) ? 0.7 + 0.299 * random.nextDouble() : 0;
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            String symbol = symbols[pick(random, symbols.length, distribution, dominantProbability)];
+            if (sb.length() + symbol.length() > length) {
+                // A surrogate pair does not fit into the last char
+                symbol = "x";
+            }
+            sb.append(symbol);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generates a message with a random alphabet and distribution.
+     */
+    static String generate(Random random, int length) {
+        Alphabet[] alphabets = Alphabet.values();
+        Distribution[] distributions = Distribution.values();
+        return generate(
+                random,
+                length,
+                alphabets[random.nextInt(alphabets.length)],
+                distributions[random.nextInt(distributions.length)]
+        );
+    }
+
+    private static String[] symbols(Random random, Alphabet alphabet) {
+        switch (alphabet) {
+            case SINGLE:
+                return new String[]{String.valueOf((char) ('a' + random.nextInt(26)))};
+            case SMALL: {
+                // Consecutive letters from a random start, so that the symbols are distinct
+                String[] symbols = new String[2 + random.nextInt(3)];
+                int first = random.nextInt(26 - symbols.length + 1);
+                for (int i = 0; i < symbols.length; i++) {
+                    symbols[i] = String.valueOf((char) ('a' + first + i));
+                }
+                return symbols;
+            }
+            case ASCII:
+                return range(0x20, 0x7F);
+            case LATIN1:
+                return range(0x00, 0x100);
+            case BMP: {
+                String[] symbols = new String[1 + random.nextInt(2000)];
+                for (int i = 0; i < symbols.length; i++) {
+                    symbols[i] = String.valueOf((char) (0x100 + random.nextInt(0xD800 - 0x100)));
+                }
+                return symbols;
+            }
+            default: {
+                String[] symbols = new String[64];
+                for (int i = 0; i < symbols.length; i++) {
+                    symbols[i] = (i % 2 == 0)
+                            ? String.valueOf((char) ('a' + i / 2 % 26))
+                            : new String(Character.toChars(0x1F600 + random.nextInt(0x400)));
+                }
+                return symbols;
+            }
+        }
+    }
+
+    private static String[] range(int from, int to) {
+        String[] symbols = new String[to - from];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = String.valueOf((char) (from + i));
+        }
+        return symbols;
+    }
+
+    private static int pick(Random random, int size, Distribution distribution, double dominantProbability) {
+        if (distribution == Distribution.UNIFORM) {
+            return random.nextInt(size);
+        }
+        if (distribution == Distribution.HEAVY) {
+            if (size == 1 || random.nextDouble() < dominantProbability) {
+                return 0;
+            }
+            return 1 + random.nextInt(size - 1);
+        }
+        int index = (int) (-Math.log(1 - random.nextDouble()) * Math.max(1, size / 16.0));
+        return Math.min(size - 1, index);
+    }
+}
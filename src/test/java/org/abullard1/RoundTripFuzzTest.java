@@ -0,0 +1,236 @@
+package org.abullard1;
+
+import org.abullard1.CodecEngines.CodecEngine;
+import org.abullard1.MessageGenerator.Alphabet;
+import org.abullard1.MessageGenerator.Distribution;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Property-based round-trip tests: every engine must decode exactly the message it encoded,
+ * for random alphabets, distributions and lengths. Reproduce a failure with -Dfuzz.seed=SEED.
+ */
+class RoundTripFuzzTest {
+    private static final long SEED = Long.getLong("fuzz.seed", System.nanoTime());
+    private static final int CASES_PER_ENGINE = Integer.getInteger("fuzz.cases", 100);
+
+    @TestFactory
+    Stream<DynamicTest> randomMessagesRoundTrip() {
+        Random random = new Random(SEED);
+        List<DynamicTest> tests = new ArrayList<>();
+        for (CodecEngine engine : CodecEngines.all()) {
+            for (int i = 0; i < CASES_PER_ENGINE; i++) {
+                long caseSeed = random.nextLong();
+                int length = randomLength(new Random(caseSeed), engine.maxMessageLength());
+                tests.add(DynamicTest.dynamicTest(
+                        engine.name() + " length=" + length + " seed=" + SEED + " case=" + caseSeed,
+                        () -> assertRoundTrip(engine, MessageGenerator.generate(new Random(caseSeed), length))
+                ));
+            }
+        }
+        return tests.stream();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000_000, 4_000_000})
+    void largeMessagesRoundTrip(int length) {
+        Random random = new Random(SEED);
+        for (Alphabet alphabet : Alphabet.values()) {
+            for (Distribution distribution : new Distribution[]{Distribution.SKEWED, Distribution.HEAVY}) {
+                String message = MessageGenerator.generate(random, length, alphabet, distribution);
+                for (CodecEngine engine : CodecEngines.all()) {
+                    if (length <= engine.maxMessageLength()) {
+                        assertRoundTrip(engine, message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyMessageRoundTrips() {
+        for (CodecEngine engine : CodecEngines.all()) {
+            assertRoundTrip(engine, "");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.72, 0.9, 0.95, 0.99})
+    void dominantSymbolRoundTrips(double dominantProbability) {
+        Random random = new Random(SEED);
+        // High frequencies drive the encoder states to the top of their range, where an inexact state / frequency loses data
+        for (int i = 0; i < CASES_PER_ENGINE; i++) {
+            StringBuilder sb = new StringBuilder(20_000);
+            while (sb.length() < 20_000) {
+                sb.append(random.nextDouble() < dominantProbability ? 'a' : (char) ('b' + random.nextInt(3)));
+            }
+            String message = sb.toString();
+            for (CodecEngine engine : CodecEngines.all()) {
+                if (message.length() <= engine.maxMessageLength()) {
+                    assertRoundTrip(engine, message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void reciprocalQuotientIsExact() {
+        Random random = new Random(SEED);
+        for (int frequency = 2; frequency <= RansModel.SCALE; frequency++) {
+            long reciprocal = Long.MAX_VALUE / frequency + 1;
+            // The largest states and the states around the largest multiples of the frequency are the critical ones
+            long top = (1L << 32) / frequency * frequency;
+            long[] states = {(1L << 32) - 1, top, top - 1, top - frequency, top - frequency - 1, random.nextInt() & 0xFFFFFFFFL};
+            for (long state : states) {
+                if (RansModel.quotient(state, reciprocal) != state / frequency) {
+                    assertEquals(state / frequency, RansModel.quotient(state, reciprocal), "state=" + state + " frequency=" + frequency);
+                }
+            }
+        }
+    }
+
+    @Test
+    void largeSkewedAlphabetRoundTrips() {
+        Random random = new Random(SEED);
+        // One dominant character plus ~50k characters occurring once, which all round to a frequency of 0 and
+        // are raised to 1, so the quantized frequencies overshoot SCALE by tens of thousands
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0x100; c < 0xD800; c++) {
+            sb.append(c);
+        }
+        for (int i = 0; i < 200_000; i++) {
+            sb.append('a');
+        }
+        char[] chars = sb.toString().toCharArray();
+        for (int i = chars.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char swap = chars[i];
+            chars[i] = chars[j];
+            chars[j] = swap;
+        }
+        String message = new String(chars);
+
+        // Normalizing used to take ~20 s for an alphabet of this size
+        RansModel model = assertTimeout(Duration.ofSeconds(5), () -> RansModel.fromProbabilities(CodecEngines.probabilities(message)));
+        for (int streams = 1; streams <= RansEncoder.MAX_STREAMS; streams *= 2) {
+            assertEquals(message, RansDecoder.decodeMessage(RansEncoder.encodeMessage(message, model, streams), model), "seed=" + SEED);
+        }
+    }
+
+    @Test
+    void corruptDataIsRejected() {
+        Random random = new Random(SEED);
+        String message = MessageGenerator.generate(random, 10_000, Alphabet.ASCII, Distribution.SKEWED);
+        RansModel model = RansModel.fromProbabilities(CodecEngines.probabilities(message));
+        byte[] encoded = RansEncoder.encodeMessage(message, model, 4);
+
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 2);
+        assertThrows(IllegalArgumentException.class, () -> RansDecoder.decodeMessage(trailing, model));
+
+        byte[] flipped = encoded.clone();
+        flipped[RansEncoder.HEADER_SIZE + 1] ^= 0x40;
+        assertThrows(IllegalArgumentException.class, () -> RansDecoder.decodeMessage(flipped, model));
+    }
+
+    @Test
+    void incompressibleMessagesAreStoredRaw() {
+        Random random = new Random(SEED);
+        // Every 16-bit value equally likely, so that not even the message's own table beats 2 bytes per char
+        char[] utf16 = new char[1_000_000];
+        for (int i = 0; i < utf16.length; i++) {
+            utf16[i] = (char) random.nextInt(1 << 16);
+        }
+        String[] messages = {
+                MessageGenerator.generate(random, 100_000, Alphabet.LATIN1, Distribution.UNIFORM),
+                new String(utf16)
+        };
+
+        for (String message : messages) {
+            RansModel model = RansModel.fromProbabilities(CodecEngines.probabilities(message));
+
+            byte[] encoded = RansEncoder.encodeMessage(message, model, 4, true);
+
+            assertTrue(encoded[0] != RansEncoder.MODE_RANS, "Random data should have been stored raw");
+            assertEquals(message, RansDecoder.decodeMessage(encoded, model));
+        }
+    }
+
+    @Test
+    void rawWidthDependsOnTheWholeMessage() {
+        Random random = new Random(SEED);
+        // The only non-Latin-1 character sits between two sampled blocks
+        char[] chars = MessageGenerator.generate(random, 1_000_000, Alphabet.LATIN1, Distribution.UNIFORM).toCharArray();
+        chars[chars.length / 32] = '\u20AC';
+        String message = new String(chars);
+
+        CompressibilityEstimate estimate = CompressibilityEstimator.estimate(message, 4, 1024, 0.97);
+
+        assertEquals(RansEncoder.HEADER_SIZE + 2L * message.length(), estimate.rawBytes);
+    }
+
+    @Test
+    void latin1CheckFindsWideCharactersAtChunkBoundaries() {
+        int chunk = CharacterHistogram.LATIN1_CHECK_CHUNK;
+        for (int length : new int[]{1, 31, chunk - 1, chunk, chunk + 1, 3 * chunk + 17}) {
+            char[] chars = MessageGenerator.generate(new Random(SEED), length, Alphabet.LATIN1, Distribution.UNIFORM).toCharArray();
+            assertTrue(CharacterHistogram.isLatin1(new String(chars)), "length=" + length);
+            for (int position : new int[]{0, chunk - 1, chunk, length - 1}) {
+                if (position < length) {
+                    char[] wide = chars.clone();
+                    wide[position] = '\u0100';
+                    assertFalse(CharacterHistogram.isLatin1(new String(wide)), "length=" + length + " position=" + position);
+                }
+            }
+        }
+        assertTrue(CharacterHistogram.isLatin1(""));
+    }
+
+    @Test
+    void vectorAndScalarHistogramsAgree() {
+        assumeTrue(CharacterHistogram.isVectorApiAvailable(), "jdk.incubator.vector is not available");
+        Random random = new Random(SEED);
+        for (int i = 0; i < CASES_PER_ENGINE; i++) {
+            String message = MessageGenerator.generate(random, randomLength(random, 1 << 20));
+            assertEquals(
+                    CharacterHistogram.countCharacters(message, false),
+                    CharacterHistogram.countCharacters(message, true),
+                    "seed=" + SEED
+            );
+        }
+    }
+
+    /**
+     * Picks lengths on a log scale, so that short, medium and long messages (and 0) are all common.
+     */
+    private static int randomLength(Random random, int maxLength) {
+        if (random.nextInt(20) == 0) {
+            return 0;
+        }
+        double exponent = random.nextDouble() * Math.log(Math.min(maxLength, 200_000));
+        return (int) Math.exp(exponent);
+    }
+
+    private static void assertRoundTrip(CodecEngine engine, String message) {
+        String decoded = engine.roundTrip(message);
+        // Compares lengths first, to keep failure messages of huge messages readable
+        assertEquals(message.length(), decoded.length(), engine.name() + ": decoded length (seed=" + SEED + ")");
+        assertTrue(message.equals(decoded), engine.name() + ": decoded message differs (seed=" + SEED + ")");
+    }
+}
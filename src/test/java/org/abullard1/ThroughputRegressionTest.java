@@ -0,0 +1,151 @@
+package org.abullard1;
+
+import org.abullard1.CodecEngines.CodecEngine;
+import org.abullard1.MessageGenerator.Alphabet;
+import org.abullard1.MessageGenerator.Distribution;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput regression gate: measures the round-trip throughput of every engine (in MB/s of UTF-16 input) and
+ * normalizes it by the speed of a fixed-work calibration loop that uses no codec code, measured alternately in the
+ * same JVM, so that the gate does not depend on how fast the machine is. Fails if an engine's normalized score drops
+ * more than throughput.regression.threshold below its stored baseline (src/test/resources/throughput-baseline.properties).
+ * Run with: gradle throughputTest
+ */
+@Tag("throughput")
+class ThroughputRegressionTest {
+    private static final String BASELINE_PATH = "/throughput-baseline.properties";
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final long MIN_RUN_NANOS = 200_000_000L;
+    private static final int CALIBRATION_STEPS = 1 << 20;
+    private static final int[] CALIBRATION_TABLE = new Random(42).ints(1 << 16).toArray();
+
+    // Keeps the JIT from removing the calibration loop
+    private static volatile long calibrationSink;
+
+    @Test
+    void throughputDoesNotRegress() throws IOException {
+        double threshold = Double.parseDouble(System.getProperty("throughput.regression.threshold", "0.25"));
+        Properties baseline = new Properties();
+        try (InputStream input = getClass().getResourceAsStream(BASELINE_PATH)) {
+            if (input != null) {
+                baseline.load(input);
+            }
+        }
+
+        Properties measured = new Properties();
+        List<String> regressions = new ArrayList<>();
+        for (CodecEngine engine : CodecEngines.all()) {
+            String message = MessageGenerator.generate(
+                    new Random(42),
+                    Math.min(engine.maxMessageLength(), 1 << 22),
+                    Alphabet.ASCII,
+                    Distribution.SKEWED
+            );
+            double[] result = measure(engine, message);
+            double megabytesPerSecond = result[0];
+            double score = result[1];
+            measured.setProperty(engine.name(), String.format(Locale.ROOT, "%.6f", score));
+            measured.setProperty(engine.name() + ".mbps", String.format(Locale.ROOT, "%.4f", megabytesPerSecond));
+            System.out.printf(Locale.ROOT, "%-16s %12.4f MB/s %12.6f score%n", engine.name(), megabytesPerSecond, score);
+
+            // Engines without a baseline yet are only reported
+            String baselineValue = baseline.getProperty(engine.name());
+            if (baselineValue != null) {
+                double minimum = Double.parseDouble(baselineValue) * (1 - threshold);
+                if (score < minimum) {
+                    regressions.add(String.format(Locale.ROOT, "%s: score %.6f (%.4f MB/s), baseline %s, minimum %.6f",
+                            engine.name(), score, megabytesPerSecond, baselineValue, minimum));
+                }
+            }
+        }
+
+        // Writes the measurements, e.g. to update the baseline after an intended change
+        String reportFile = System.getProperty("throughput.report.file");
+        if (reportFile != null) {
+            Path path = Path.of(reportFile);
+            Files.createDirectories(path.getParent());
+            try (OutputStream output = Files.newOutputStream(path)) {
+                measured.store(output, "<engine>: MB/s per calibration Mstep/s, <engine>.mbps: round-trip MB/s of UTF-16 input");
+            }
+        }
+
+        assertTrue(regressions.isEmpty(), "Throughput regressed by more than " + threshold * 100 + "%:\n" + String.join("\n", regressions));
+    }
+
+    /**
+     * Returns the median MB/s of the engine and the median of its MB/s divided by the calibration speed,
+     * measuring engine and calibration alternately, so that both see the same machine load.
+     */
+    private static double[] measure(CodecEngine engine, String message) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            calibrate();
+            runFor(engine, message);
+        }
+        double[] megabytesPerSecond = new double[MEASURED_RUNS];
+        double[] scores = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            double calibrationSpeed = calibrate();
+            megabytesPerSecond[i] = runFor(engine, message);
+            scores[i] = megabytesPerSecond[i] / calibrationSpeed;
+        }
+        Arrays.sort(megabytesPerSecond);
+        Arrays.sort(scores);
+        return new double[]{megabytesPerSecond[MEASURED_RUNS / 2], scores[MEASURED_RUNS / 2]};
+    }
+
+    /**
+     * Repeats the round trip for at least MIN_RUN_NANOS and returns the throughput in MB/s of UTF-16 input.
+     */
+    private static double runFor(CodecEngine engine, String message) {
+        long bytes = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            String decoded = engine.roundTrip(message);
+            if (!message.equals(decoded)) {
+                throw new AssertionError(engine.name() + ": decoded message differs");
+            }
+            bytes += 2L * message.length();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_RUN_NANOS);
+        return bytes / (elapsed / 1e9) / 1e6;
+    }
+
+    /**
+     * Repeats a fixed amount of table lookups and multiplications (the kind of work the codecs do, but none of their code)
+     * for at least MIN_RUN_NANOS and returns the speed in million steps per second.
+     */
+    private static double calibrate() {
+        long steps = 0;
+        long hash = 0x9E3779B97F4A7C15L;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < CALIBRATION_STEPS; i++) {
+                hash = (hash ^ CALIBRATION_TABLE[(int) hash & 0xFFFF]) * 0xBF58476D1CE4E5B9L;
+                hash ^= hash >>> 29;
+            }
+            steps += CALIBRATION_STEPS;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_RUN_NANOS);
+        calibrationSink = hash;
+        return steps / (elapsed / 1e9) / 1e6;
+    }
+}